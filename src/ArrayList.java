@@ -67,6 +67,30 @@ public class ArrayList<T> implements List<T> {
         return true;
     }
 
+    /**
+     * Append every element of the other list to the end of this list.
+     * Grows the array at most once, then copies the elements in without any shifting
+     * @param other List whose elements are appended
+     * @return true if this list changed
+     */
+    @Override
+    public boolean addAll(ArrayList<T> other) {
+        int count = other.size();
+        //Grow once to fit the whole batch
+        if (this.size + count > this.data.length) {
+            Object[] newData = new Object[Math.max(this.data.length * 2, this.size + count)];
+            for (int i = 0; i < this.size; i++) {
+                newData[i] = this.data[i];
+            }
+            this.data = newData;
+        }
+        for (int i = 0; i < count; i++) {
+            this.data[this.size + i] = other.data[i];
+        }
+        this.size += count;
+        return count > 0;
+    }
+
     /**
      * Return the element at the specified position
      * @param index The index of the element returned
@@ -9,6 +9,7 @@ public class CelestialObject {
     public double vx, vy;
     public int size;
     public Color color;
+    public boolean isStar; //The star is the source of gravity and is never pulled itself
 
     /**
      * Constructor for a new CelestialObject
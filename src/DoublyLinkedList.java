@@ -116,6 +116,32 @@ public class DoublyLinkedList<T> implements List<T> {
         return true;
     }
 
+    /**
+     * Append every element of the other list to the end of this list.
+     * Links each new node after the tail without any traversal
+     * @param other List whose elements are appended
+     * @return true if this list changed
+     */
+    @Override
+    public boolean addAll(ArrayList<T> other) {
+        int count = other.size();
+        for (int i = 0; i < count; i++) {
+            Node<T> newNode = new Node<>(other.get(i));
+            //Case 1: Adding to an empty list
+            if (this.tail == null) {
+                this.head = newNode;
+            }
+            //Case 2: Adding after the tail
+            else {
+                this.tail.next = newNode;
+                newNode.prev = this.tail;
+            }
+            this.tail = newNode;
+        }
+        this.size += count;
+        return count > 0;
+    }
+
     /**
      * Return the element at the specified position in the list
      * @param index Index of the element to return
@@ -73,6 +73,33 @@ public class DummyHeadLinkedList<T> implements List<T>{
         return true;
     }
 
+    /**
+     * Append every element of the other list to the end of this list.
+     * Walks to the last node once and links the new nodes from there
+     * @param other List whose elements are appended
+     * @return true if this list changed
+     */
+    @Override
+    public boolean addAll(ArrayList<T> other) {
+        int count = other.size();
+        if (count == 0) {
+            return false;
+        }
+        Node<T> last = this.dummyHead;
+
+        //Find the last node, the dummy head if the list is empty
+        for (int i = 0; i < this.size; i++) {
+            last = last.next;
+        }
+
+        for (int i = 0; i < count; i++) {
+            last.next = new Node<>(other.get(i));
+            last = last.next;
+        }
+        this.size += count;
+        return true;
+    }
+
     /**
      * Return the element at the specified position in the list
      * @param index Index of the element to return
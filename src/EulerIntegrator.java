@@ -0,0 +1,20 @@
+/**
+ * Explicit Euler integrator.
+ * Moves the body by its current velocity, then updates the velocity from the
+ * acceleration at the old position. This is the original update of the simulation
+ */
+public class EulerIntegrator implements Integrator {
+    private double[] acceleration = new double[2];
+
+    @Override
+    public void step(CelestialObject body, double dt, int substeps, GravityField field) {
+        double h = dt / substeps;
+        for (int i = 0; i < substeps; i++) {
+            field.acceleration(body.x, body.y, body.size, this.acceleration);
+            body.x += body.vx * h;
+            body.y += body.vy * h;
+            body.vx += this.acceleration[0] * h;
+            body.vy += this.acceleration[1] * h;
+        }
+    }
+}
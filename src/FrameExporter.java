@@ -0,0 +1,231 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Headless frame export for Massive Motion.
+ * Runs the simulation without a window, draws each tick into a BufferedImage and hands the
+ * image to a pool of encoder threads, so PNG compression and disk writes never run on the
+ * simulation thread. When every encoder is busy the simulation either drops the frame or
+ * waits, depending on export_backpressure. A frame is reserved before its tick runs, so a
+ * dropped frame costs neither the grid fill nor the drawing
+ */
+public class FrameExporter {
+    private ExecutorService encoders;
+    private Semaphore inFlight; //One permit per frame that may be queued or encoding
+    private ArrayBlockingQueue<BufferedImage> freeImages; //Images not currently held by an encoder
+    private boolean dropWhenBusy;
+    private String format;
+    private File outputDir;
+    private RandomAccessFile rawFile; //Only used by the raw format
+    private FileChannel rawStream;
+    private ThreadLocal<ByteBuffer> rawBuffer; //One RGB buffer per encoder thread
+    private long frameBytes;
+    private int offered; //Frames reserved or dropped so far
+    private int dropped;
+    private AtomicInteger written;
+
+    /**
+     * Construct an exporter and start its encoder threads.
+     * Image buffers are allocated once, one per permit, and reused
+     * @param width Width of each frame in pixels
+     * @param height Height of each frame in pixels
+     * @param threads Number of encoder threads
+     * @param queue Number of frames that may wait for an encoder
+     * @param dropWhenBusy True to drop frames when the queue is full, false to block the simulation
+     * @param format png for numbered PNG files or raw for one stream of RGB frames
+     * @param outputDir Directory the frames are written to
+     * @throws IOException If the output cannot be created
+     */
+    public FrameExporter(int width, int height, int threads, int queue, boolean dropWhenBusy, String format, File outputDir) throws IOException {
+        this.encoders = Executors.newFixedThreadPool(threads);
+        this.inFlight = new Semaphore(threads + queue);
+        this.freeImages = new ArrayBlockingQueue<>(threads + queue);
+        for (int i = 0; i < threads + queue; i++) {
+            this.freeImages.add(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB));
+        }
+        this.dropWhenBusy = dropWhenBusy;
+        this.format = format;
+        this.outputDir = outputDir;
+        this.written = new AtomicInteger();
+        this.frameBytes = (long) width * height * 3;
+        outputDir.mkdirs();
+        if (format.equals("raw")) {
+            this.rawFile = new RandomAccessFile(new File(outputDir, "frames.raw"), "rw");
+            this.rawFile.setLength(0);
+            this.rawStream = this.rawFile.getChannel();
+            this.rawBuffer = ThreadLocal.withInitial(() -> ByteBuffer.allocate(width * height * 3));
+        }
+    }
+
+    /**
+     * Reserve a slot for the next frame, called once per tick before the tick runs.
+     * In drop mode this fails at once when every encoder is busy, otherwise it waits
+     * @return True if the frame should be drawn and passed to submit, false if it was dropped
+     * @throws InterruptedException If interrupted while waiting in block mode
+     */
+    public boolean reserve() throws InterruptedException {
+        this.offered++;
+        if (this.dropWhenBusy) {
+            if (!this.inFlight.tryAcquire()) {
+                this.dropped++;
+                return false;
+            }
+        } else {
+            this.inFlight.acquire();
+        }
+        return true;
+    }
+
+    /**
+     * Draw the current state of the simulation and queue it for encoding.
+     * Must follow a successful call to reserve
+     * @param frame Tick index of the frame, so dropped frames leave gaps in the numbering
+     * @param grid Index of the bodies to draw
+     * @param viewX World x position of the top left corner
+     * @param viewY World y position of the top left corner
+     * @param zoom Pixels per world unit
+     */
+    public void submit(int frame, SpatialGrid grid, double viewX, double viewY, double zoom) {
+        //A reserved permit guarantees a free image
+        BufferedImage image = this.freeImages.poll();
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        FrameRenderer.draw(g, grid, viewX, viewY, zoom, image.getWidth(), image.getHeight());
+        g.dispose();
+
+        this.encoders.execute(() -> {
+            try {
+                encode(image, frame);
+                this.written.incrementAndGet();
+            } catch (IOException e) {
+                System.err.println("Error: Could not write frame " + frame + ".");
+                e.printStackTrace();
+            } finally {
+                this.freeImages.add(image);
+                this.inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Private helper run on an encoder thread to write one frame
+     * @param image Drawn frame
+     * @param frame Number of the frame
+     * @throws IOException If the frame cannot be written
+     */
+    private void encode(BufferedImage image, int frame) throws IOException {
+        if (this.format.equals("raw")) {
+            //Every raw frame has the same size, so each encoder writes straight to its own slot
+            int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            ByteBuffer bytes = this.rawBuffer.get();
+            bytes.clear();
+            for (int i = 0; i < pixels.length; i++) {
+                bytes.put((byte) (pixels[i] >> 16));
+                bytes.put((byte) (pixels[i] >> 8));
+                bytes.put((byte) pixels[i]);
+            }
+            bytes.flip();
+            long position = frame * this.frameBytes;
+            while (bytes.hasRemaining()) {
+                position += this.rawStream.write(bytes, position);
+            }
+        } else {
+            ImageIO.write(image, "png", new File(this.outputDir, String.format("frame%06d.png", frame)));
+        }
+    }
+
+    /**
+     * Wait for every queued frame to be written and stop the encoder threads.
+     * The raw stream is sized to every offered frame, so dropped frames read back as all zero
+     * @throws InterruptedException If interrupted while waiting
+     * @throws IOException If the raw stream cannot be closed
+     */
+    public void close() throws InterruptedException, IOException {
+        this.encoders.shutdown();
+        this.encoders.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        if (this.rawFile != null) {
+            this.rawFile.setLength(this.offered * this.frameBytes);
+            this.rawFile.close();
+        }
+    }
+
+    public int getDropped() {
+        return this.dropped;
+    }
+
+    public int getWritten() {
+        return this.written.get();
+    }
+
+    /**
+     * Main method that runs the simulation headless and exports its frames
+     * @param args Command-line arguments
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: java FrameExporter <property_file_name>");
+            System.exit(1);
+        }
+        System.setProperty("java.awt.headless", "true");
+
+        Properties properties = Simulation.loadProperties(args[0]);
+        int width = Integer.parseInt(properties.getProperty("window_size_x"));
+        int height = Integer.parseInt(properties.getProperty("window_size_y"));
+        double viewX = Double.parseDouble(properties.getProperty("view_x", "0"));
+        double viewY = Double.parseDouble(properties.getProperty("view_y", "0"));
+        double zoom = Double.parseDouble(properties.getProperty("zoom", "1"));
+        double cellSize = Double.parseDouble(properties.getProperty("grid_cell_size", "64"));
+        int frames = Integer.parseInt(properties.getProperty("export_frames", "300"));
+        int threads = Integer.parseInt(properties.getProperty("export_threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int queue = Integer.parseInt(properties.getProperty("export_queue", "8"));
+        String backpressure = properties.getProperty("export_backpressure", "block");
+        String format = properties.getProperty("export_format", "png");
+        File outputDir = new File(properties.getProperty("export_dir", "frames"));
+
+        Simulation simulation = new Simulation(properties);
+        SpatialGrid grid = new SpatialGrid(simulation.getWorldWidth(), simulation.getWorldHeight(), cellSize);
+
+        System.out.println("Exporting " + frames + " frames to " + outputDir + "...");
+        long start = System.nanoTime();
+        FrameExporter exporter = null;
+        try {
+            exporter = new FrameExporter(width, height, threads, queue, backpressure.equals("drop"), format, outputDir);
+            for (int i = 0; i < frames; i++) {
+                //A dropped frame skips filling the grid as well as drawing
+                boolean accepted = exporter.reserve();
+                simulation.tick(accepted ? grid : null);
+                if (accepted) {
+                    exporter.submit(i, grid, viewX, viewY, zoom);
+                }
+            }
+            exporter.close();
+        } catch (IOException | InterruptedException e) {
+            System.err.println("Error: Frame export failed.");
+            e.printStackTrace();
+            System.exit(1);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("Wrote %d frames, dropped %d, in %.2f s%n", exporter.getWritten(), exporter.getDropped(), seconds);
+        if (format.equals("raw")) {
+            System.out.println("frames.raw holds " + width + "x" + height + " RGB frames, 3 bytes per pixel");
+        }
+    }
+}
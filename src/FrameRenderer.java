@@ -0,0 +1,32 @@
+import java.awt.Graphics;
+
+/**
+ * Draws the visible part of the simulation.
+ * Shared by the Swing panel and the headless frame exporter so both produce the same picture
+ */
+public class FrameRenderer {
+
+    /**
+     * Draw every body inside the viewport.
+     * Only the bodies the spatial grid finds in view are visited
+     * @param g Graphics to draw on
+     * @param grid Index of the bodies to draw
+     * @param viewX World x position of the top left corner
+     * @param viewY World y position of the top left corner
+     * @param zoom Pixels per world unit
+     * @param width Width of the drawing area in pixels
+     * @param height Height of the drawing area in pixels
+     */
+    public static void draw(Graphics g, SpatialGrid grid, double viewX, double viewY, double zoom, int width, int height) {
+        List<CelestialObject> visible = new ArrayList<>();
+        grid.query(viewX, viewY, viewX + width / zoom, viewY + height / zoom, visible);
+
+        //Loop through and draw every visible object, converted to screen position
+        for (int i = 0; i < visible.size(); i++) {
+            CelestialObject objectToDraw = visible.get(i);
+            int screenSize = Math.max(1, (int) Math.round(objectToDraw.size * zoom));
+            g.setColor(objectToDraw.color);
+            g.fillOval((int) ((objectToDraw.x - viewX) * zoom), (int) ((objectToDraw.y - viewY) * zoom), screenSize, screenSize);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Gravity of the star acting on every other body.
+ * The star is treated as the only massive object: comets are pulled toward it
+ * but do not pull on it or on each other. The star keeps moving at its own velocity,
+ * tracked here so that tiles which do not hold the star still feel its pull
+ */
+public class GravityField {
+    private double centerX, centerY;
+    private double vx, vy;
+    private double gm; //Gravity constant times star mass
+    private double softening2; //Squared softening length, keeps the pull finite inside the star
+
+    /**
+     * Construct the field of a star
+     * @param x Initial x position of the star's drawn corner
+     * @param y Initial y position of the star's drawn corner
+     * @param vx x velocity of the star
+     * @param vy y velocity of the star
+     * @param size Size of the star
+     * @param gm Gravity constant times star mass, in pixels cubed per tick squared
+     */
+    public GravityField(double x, double y, double vx, double vy, int size, double gm) {
+        this.centerX = x + size / 2.0;
+        this.centerY = y + size / 2.0;
+        this.vx = vx;
+        this.vy = vy;
+        this.gm = gm;
+        this.softening2 = (size / 2.0) * (size / 2.0);
+    }
+
+    /**
+     * Compute the acceleration of a body drawn at a position.
+     * Writes zero when gravity is turned off
+     * @param bodyX x position of the body's drawn corner
+     * @param bodyY y position of the body's drawn corner
+     * @param size Size of the body, used to find its center
+     * @param out Array receiving the x and y acceleration
+     */
+    public void acceleration(double bodyX, double bodyY, int size, double[] out) {
+        if (this.gm == 0) {
+            out[0] = 0;
+            out[1] = 0;
+            return;
+        }
+        double dx = this.centerX - (bodyX + size / 2.0);
+        double dy = this.centerY - (bodyY + size / 2.0);
+        double r2 = dx * dx + dy * dy + this.softening2;
+        double scale = this.gm / (r2 * Math.sqrt(r2));
+        out[0] = dx * scale;
+        out[1] = dy * scale;
+    }
+
+    /**
+     * Number of sub-steps a body needs to cover dt accurately.
+     * The step is kept below accuracy times the local orbital time scale sqrt(r^3 / GM),
+     * so only bodies close to the star are sub-stepped
+     * @param body Body to check
+     * @param dt Length of the whole step in ticks
+     * @param accuracy Fraction of the orbital time scale allowed per sub-step
+     * @param maxSubsteps Upper limit on the returned count
+     * @return Number of sub-steps, at least 1
+     */
+    public int substeps(CelestialObject body, double dt, double accuracy, int maxSubsteps) {
+        if (this.gm == 0) {
+            return 1;
+        }
+        double dx = this.centerX - (body.x + body.size / 2.0);
+        double dy = this.centerY - (body.y + body.size / 2.0);
+        double r2 = dx * dx + dy * dy + this.softening2;
+        double timeScale = Math.sqrt(r2 * Math.sqrt(r2) / this.gm);
+        double needed = Math.ceil(dt / (accuracy * timeScale));
+        return (int) Math.max(1, Math.min(maxSubsteps, needed));
+    }
+
+    /**
+     * Move the star forward by dt
+     * @param dt Length of the step in ticks
+     */
+    public void advance(double dt) {
+        this.centerX += this.vx * dt;
+        this.centerY += this.vy * dt;
+    }
+}
@@ -0,0 +1,15 @@
+/**
+ * Advances one body through a step of the simulation, split into sub-steps.
+ * Implementations differ in how they combine position, velocity and acceleration
+ */
+public interface Integrator {
+
+    /**
+     * Move the body forward by dt under the pull of the gravity field
+     * @param body Body to update in place
+     * @param dt Length of the whole step in ticks
+     * @param substeps Number of equal sub-steps dt is split into
+     * @param field Gravity acting on the body
+     */
+    public void step(CelestialObject body, double dt, int substeps, GravityField field);
+}
@@ -0,0 +1,29 @@
+/**
+ * Velocity Verlet (kick-drift-kick leapfrog) integrator.
+ * Symplectic, so orbits around the star keep their energy instead of spiraling out.
+ * The acceleration at the end of each sub-step is reused as the start of the next,
+ * so a sub-stepped body costs one field evaluation per sub-step
+ */
+public class LeapfrogIntegrator implements Integrator {
+    private double[] acceleration = new double[2];
+
+    @Override
+    public void step(CelestialObject body, double dt, int substeps, GravityField field) {
+        double h = dt / substeps;
+        field.acceleration(body.x, body.y, body.size, this.acceleration);
+        for (int i = 0; i < substeps; i++) {
+            //Half kick with the acceleration at the start of the sub-step
+            body.vx += this.acceleration[0] * h / 2;
+            body.vy += this.acceleration[1] * h / 2;
+
+            //Full drift
+            body.x += body.vx * h;
+            body.y += body.vy * h;
+
+            //Half kick with the acceleration at the end of the sub-step
+            field.acceleration(body.x, body.y, body.size, this.acceleration);
+            body.vx += this.acceleration[0] * h / 2;
+            body.vy += this.acceleration[1] * h / 2;
+        }
+    }
+}
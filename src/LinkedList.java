@@ -90,6 +90,39 @@ public class LinkedList <T> implements List<T> {
         return true;
     }
 
+    /**
+     * Append every element of the other list to the end of this list.
+     * Walks to the tail once and links the new nodes from there,
+     * instead of walking the list again for every element
+     * @param other List whose elements are appended
+     * @return true if this list changed
+     */
+    @Override
+    public boolean addAll(ArrayList<T> other) {
+        int count = other.size();
+        if (count == 0) {
+            return false;
+        }
+        Node<T> tail;
+        int start = 0;
+        //Case 1: Empty list, the first element becomes the head
+        if (this.head == null) {
+            this.head = new Node<>(other.get(0));
+            tail = this.head;
+            start = 1;
+        }
+        //Case 2: Find the current last node
+        else {
+            tail = getNode(this.size - 1);
+        }
+        for (int i = start; i < count; i++) {
+            tail.next = new Node<>(other.get(i));
+            tail = tail.next;
+        }
+        this.size += count;
+        return true;
+    }
+
     /**
      * Return the element at the specified position
      * @param index Index of the element to return
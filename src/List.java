@@ -2,6 +2,7 @@ public interface List<T> {
 
     public void add (int index, T element);
     public boolean add (T element);
+    public boolean addAll (ArrayList<T> other);
     public T get (int index);
     public T remove (int index);
     public int size ();
@@ -1,171 +1,136 @@
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.Properties;
-import java.util.Random;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
 
 /**
  * Main class for the Massive Motion simulation.
- * This class loads configuration, creates the window, and manages
- * the animation for the celestial objects
+ * This class creates the window and drives the animation for the celestial objects,
+ * either from a local Simulation or from worker processes through a TileCoordinator
  */
 public class MassiveMotion extends JPanel implements ActionListener {
-    private List<CelestialObject> celestialObject; //Master list to hold all objects
+    private Simulation simulation; //Null when running distributed
+    private TileCoordinator coordinator; //Null unless tiles is greater than 1
+    private SpatialGrid grid; //Index of the bodies drawn by the next paint, used to draw only what is visible
     private Timer animationTimer;
-    private Random cometGenerator;
-    private Properties properties;
     //Window properties
     private int windowWidth;
     private int windowHeight;
-    //Comet properties
-    private double genX, genY;
-    private int bodySize;
-    private int bodyVelocityRange;
+    //Viewport, the world position of the top left corner and the pixels per world unit
+    private double viewX, viewY;
+    private double zoom;
 
     /**
      * Constructor for the Massive Motion simulation.
-     * Loads all properties from the configuration file, initializes the List implementation
-     * and adds the start to the simulation.
+     * Loads all properties from the configuration file and creates the Simulation,
+     * or starts the tile workers when the tiles property asks for more than one.
      * @param propertyFileName The name of the .txt file to load
      */
     public MassiveMotion(String propertyFileName) {
-        this.cometGenerator = new Random();
-        this.properties = new Properties();
-
-        //Read a property file
-        try {
-            FileInputStream fileInput = new FileInputStream(propertyFileName);
-            properties.load(fileInput);
-            fileInput.close();
-        } catch (IOException e) {
-            System.err.println("Error: Could not load property file.");
-            e.printStackTrace();
-            System.exit(1);
-        }
-
-        //Load properties into variables
+        Properties properties = Simulation.loadProperties(propertyFileName);
         int timerDelay = Integer.parseInt(properties.getProperty("timer_delay"));
         this.windowWidth = Integer.parseInt(properties.getProperty("window_size_x"));
         this.windowHeight = Integer.parseInt(properties.getProperty("window_size_y"));
-
-        String listType = properties.getProperty("list");
-
-        if (listType.equals("arraylist")) {
-            this.celestialObject = new ArrayList<>();
-        } else if (listType.equals("single")) {
-            this.celestialObject = new LinkedList<>();
-        } else if (listType.equals("double")) {
-            this.celestialObject = new DoublyLinkedList<>();
-        } else if (listType.equals("dummyhead")) {
-            this.celestialObject = new DummyHeadLinkedList<>();
+        int worldWidth = Integer.parseInt(properties.getProperty("world_size_x", properties.getProperty("window_size_x")));
+        int worldHeight = Integer.parseInt(properties.getProperty("world_size_y", properties.getProperty("window_size_y")));
+        int tiles = Integer.parseInt(properties.getProperty("tiles", "1"));
+
+        this.viewX = Double.parseDouble(properties.getProperty("view_x", "0"));
+        this.viewY = Double.parseDouble(properties.getProperty("view_y", "0"));
+        this.zoom = Double.parseDouble(properties.getProperty("zoom", "1"));
+        double cellSize = Double.parseDouble(properties.getProperty("grid_cell_size", "64"));
+        this.grid = new SpatialGrid(worldWidth, worldHeight, cellSize);
+
+        if (tiles > 1) {
+            try {
+                this.coordinator = new TileCoordinator(propertyFileName, worldWidth, tiles);
+            } catch (IOException e) {
+                System.err.println("Error: Could not start tile workers.");
+                e.printStackTrace();
+                System.exit(1);
+            }
         } else {
-            System.err.println("Error: Unknown list type. Defaulting to ArrayList.");
-            this.celestialObject = new ArrayList<>();
+            this.simulation = new Simulation(properties);
+            //Only the star exists before the first tick
+            List<CelestialObject> bodies = this.simulation.getObjects();
+            for (int i = 0; i < bodies.size(); i++) {
+                this.grid.insert(bodies.get(i));
+            }
         }
+        this.grid.finish();
+        animationTimer = new Timer(timerDelay, this);
 
-        //Create star based on properties
-        double starX = Double.parseDouble(properties.getProperty("star_position_x"));
-        double starY = Double.parseDouble(properties.getProperty("star_position_y"));
-        double starVX = Double.parseDouble(properties.getProperty("star_velocity_x"));
-        double starVY = Double.parseDouble(properties.getProperty("star_velocity_y"));
-        int starSize = Integer.parseInt(properties.getProperty("star_size"));
-        CelestialObject star = new CelestialObject(starX, starY, starVX, starVY, starSize, Color.RED);
-        this.celestialObject.add(star);
+        //Drag to pan, scroll to zoom around the mouse
+        MouseAdapter viewportControl = new MouseAdapter() {
+            private int lastX, lastY;
 
-        //Store comet properties
-        this.genX = Double.parseDouble(properties.getProperty("gen_x"));
-        this.genY = Double.parseDouble(properties.getProperty("gen_y"));
-        this.bodySize = Integer.parseInt(properties.getProperty("body_size"));
-        this.bodyVelocityRange = Integer.parseInt(properties.getProperty("body_velocity"));
+            @Override
+            public void mousePressed(MouseEvent e) {
+                lastX = e.getX();
+                lastY = e.getY();
+            }
 
-        animationTimer = new Timer(timerDelay, this);
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                viewX -= (e.getX() - lastX) / zoom;
+                viewY -= (e.getY() - lastY) / zoom;
+                lastX = e.getX();
+                lastY = e.getY();
+                repaint();
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                double worldX = viewX + e.getX() / zoom;
+                double worldY = viewY + e.getY() / zoom;
+                zoom = Math.max(0.01, Math.min(100, zoom * Math.pow(1.1, -e.getPreciseWheelRotation())));
+                viewX = worldX - e.getX() / zoom;
+                viewY = worldY - e.getY() / zoom;
+                repaint();
+            }
+        };
+        addMouseListener(viewportControl);
+        addMouseMotionListener(viewportControl);
+        addMouseWheelListener(viewportControl);
     }
 
     /**
-     * Draw celestial objects on the screen.
+     * Draw the celestial objects inside the viewport on the screen.
      * @param g the Graphics provided by Swing for drawing
      */
     public void paintComponent(Graphics g) {
         super.paintComponent(g);
-        //Loop through and draw every object in the list
-        for (int i = 0; i < this.celestialObject.size(); i++) {
-            CelestialObject objectToDraw = this.celestialObject.get(i);
-            g.setColor(objectToDraw.color);
-            g.fillOval((int) objectToDraw.x, (int) objectToDraw.y, objectToDraw.size, objectToDraw.size);
-        }
+        FrameRenderer.draw(g, this.grid, this.viewX, this.viewY, this.zoom, getWidth(), getHeight());
         animationTimer.start();
     }
 
     /**
      * Main animation loop called by Timer.
-     * This method moves all objects, removes off-screen objects,
-     * and generates new comets
+     * Advances the simulation by one tick, which also refills the grid, and redraws the panel
      * @param actionEvent the event to be processed from Timer
      */
     @Override
     public void actionPerformed(ActionEvent actionEvent) {
-        //Move objects in the list
-        for (int i = 0; i < this.celestialObject.size(); i++) {
-            CelestialObject currentObject = this.celestialObject.get(i);
-            currentObject.x += currentObject.vx;
-            currentObject.y += currentObject.vy;
-        }
-
-        //Remove off-screen objects
-        for (int i = this.celestialObject.size() - 1; i >= 0; i--) {
-            CelestialObject objectToCheck = this.celestialObject.get(i);
-            boolean isOffScreen = objectToCheck.x < -objectToCheck.size || objectToCheck.x > this.windowWidth + objectToCheck.size || objectToCheck.y < -objectToCheck.size || objectToCheck.y > this.windowHeight + objectToCheck.size;
-            if (isOffScreen) {
-                this.celestialObject.remove(i);
+        if (this.coordinator != null) {
+            try {
+                this.grid.rebuild(this.coordinator.tick());
+            } catch (IOException e) {
+                System.err.println("Error: Lost connection to a tile worker.");
+                e.printStackTrace();
+                System.exit(1);
             }
-        }
-
-        //Generate new comets
-        if (cometGenerator.nextDouble() < this.genX) {
-            addComet("x-axis");
-        }
-        if (cometGenerator.nextDouble() < this.genY) {
-            addComet("y-axis");
+        } else {
+            this.simulation.tick(this.grid);
         }
         repaint(); //Redraw
     }
 
-    /**
-     * Private helper method to create a new comet at a random edge.
-     * The comet is given a random velocity and added the list
-     * @param axis determines the spawn edge
-     */
-    private void addComet(String axis) {
-        //Temp variables
-        double startX = 0;
-        double startY = 0;
-        double velocityX = 0;
-        double velocityY = 0;
-
-        //Generate a random velocity in the range
-        while (velocityX == 0) {
-            velocityX = cometGenerator.nextInt(this.bodyVelocityRange * 2 + 1) - this.bodyVelocityRange;
-        }
-        while (velocityY == 0) {
-            velocityY = cometGenerator.nextInt(this.bodyVelocityRange * 2 + 1) - this.bodyVelocityRange;
-        }
-
-        if (axis.equals("x-axis")) { //Spawn along the x-axis
-            startX = cometGenerator.nextInt(this.windowWidth);
-            startY = cometGenerator.nextBoolean() ? 0 : this.windowHeight;
-        } else { //Spawn along the y-axis
-            startY = cometGenerator.nextInt(this.windowHeight);
-            startX = cometGenerator.nextBoolean() ? 0 : this.windowWidth;
-        }
-
-        CelestialObject comet = new CelestialObject(startX, startY, velocityX, velocityY, this.bodySize, Color.BLACK);
-        this.celestialObject.add(comet);
-    }
-
     /**
      * Main method that sets up the JFrame window and starts the MassiveMotion panel
      * @param args Command-line arguments
@@ -0,0 +1,49 @@
+/**
+ * Classic fourth-order Runge-Kutta integrator.
+ * Four acceleration evaluations per step, very accurate over short steps but not symplectic
+ */
+public class RK4Integrator implements Integrator {
+    private double[] acceleration = new double[2];
+
+    @Override
+    public void step(CelestialObject body, double dt, int substeps, GravityField field) {
+        double h = dt / substeps;
+        for (int i = 0; i < substeps; i++) {
+            stepOnce(body, h, field);
+        }
+    }
+
+    /**
+     * Private helper to take a single Runge-Kutta step
+     * @param body Body to update in place
+     * @param dt Length of the step in ticks
+     * @param field Gravity acting on the body
+     */
+    private void stepOnce(CelestialObject body, double dt, GravityField field) {
+        double x = body.x;
+        double y = body.y;
+        double vx = body.vx;
+        double vy = body.vy;
+
+        field.acceleration(x, y, body.size, this.acceleration);
+        double k1x = vx, k1y = vy;
+        double k1vx = this.acceleration[0], k1vy = this.acceleration[1];
+
+        field.acceleration(x + k1x * dt / 2, y + k1y * dt / 2, body.size, this.acceleration);
+        double k2x = vx + k1vx * dt / 2, k2y = vy + k1vy * dt / 2;
+        double k2vx = this.acceleration[0], k2vy = this.acceleration[1];
+
+        field.acceleration(x + k2x * dt / 2, y + k2y * dt / 2, body.size, this.acceleration);
+        double k3x = vx + k2vx * dt / 2, k3y = vy + k2vy * dt / 2;
+        double k3vx = this.acceleration[0], k3vy = this.acceleration[1];
+
+        field.acceleration(x + k3x * dt, y + k3y * dt, body.size, this.acceleration);
+        double k4x = vx + k3vx * dt, k4y = vy + k3vy * dt;
+        double k4vx = this.acceleration[0], k4vy = this.acceleration[1];
+
+        body.x = x + (k1x + 2 * k2x + 2 * k3x + k4x) * dt / 6;
+        body.y = y + (k1y + 2 * k2y + 2 * k3y + k4y) * dt / 6;
+        body.vx = vx + (k1vx + 2 * k2vx + 2 * k3vx + k4vx) * dt / 6;
+        body.vy = vy + (k1vy + 2 * k2vy + 2 * k3vy + k4vy) * dt / 6;
+    }
+}
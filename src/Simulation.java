@@ -0,0 +1,226 @@
+import java.awt.Color;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * Simulation state and update logic for Massive Motion.
+ * Holds the List of celestial objects and advances them one tick at a time,
+ * independent of any window, so it can be driven by the Swing panel or headless tools
+ */
+public class Simulation {
+    private List<CelestialObject> celestialObject; //Master list to hold all objects
+    private int timerDelay;
+    //World properties, the area bodies live in
+    private int worldWidth;
+    private int worldHeight;
+    private SpawnEngine spawnEngine;
+    //Motion properties
+    private Integrator integrator;
+    private GravityField field;
+    private double timeStep;
+    private double substepAccuracy;
+    private int maxSubsteps;
+
+    /**
+     * Constructor for a new Simulation.
+     * Reads every setting from the loaded properties, initializes the List implementation
+     * and adds the star to the simulation.
+     * @param properties The loaded configuration properties
+     */
+    public Simulation(Properties properties) {
+        //Load properties into variables
+        this.timerDelay = Integer.parseInt(properties.getProperty("timer_delay"));
+        //The world defaults to the size of the window
+        this.worldWidth = Integer.parseInt(properties.getProperty("world_size_x", properties.getProperty("window_size_x")));
+        this.worldHeight = Integer.parseInt(properties.getProperty("world_size_y", properties.getProperty("window_size_y")));
+
+        this.celestialObject = createList(properties.getProperty("list"));
+
+        //Create star based on properties
+        double starX = Double.parseDouble(properties.getProperty("star_position_x"));
+        double starY = Double.parseDouble(properties.getProperty("star_position_y"));
+        double starVX = Double.parseDouble(properties.getProperty("star_velocity_x"));
+        double starVY = Double.parseDouble(properties.getProperty("star_velocity_y"));
+        int starSize = Integer.parseInt(properties.getProperty("star_size"));
+        CelestialObject star = new CelestialObject(starX, starY, starVX, starVY, starSize, Color.RED);
+        star.isStar = true;
+        this.celestialObject.add(star);
+
+        //Gravity is off unless a gravity constant is given, in pixels cubed per kg per tick squared
+        double gravity = Double.parseDouble(properties.getProperty("gravity", "0"));
+        double starMass = Double.parseDouble(properties.getProperty("star_mass"));
+        this.field = new GravityField(starX, starY, starVX, starVY, starSize, gravity * starMass);
+        this.integrator = createIntegrator(properties.getProperty("integrator", "euler"));
+        this.timeStep = Double.parseDouble(properties.getProperty("time_step", "1"));
+        this.substepAccuracy = Double.parseDouble(properties.getProperty("substep_accuracy", "0.05"));
+        this.maxSubsteps = Integer.parseInt(properties.getProperty("max_substeps", "64"));
+
+        //Store comet properties
+        double genX = Double.parseDouble(properties.getProperty("gen_x"));
+        double genY = Double.parseDouble(properties.getProperty("gen_y"));
+        int bodySize = Integer.parseInt(properties.getProperty("body_size"));
+        int bodyVelocityRange = Integer.parseInt(properties.getProperty("body_velocity"));
+        this.spawnEngine = new SpawnEngine(this.worldWidth, this.worldHeight, genX, genY, bodySize, bodyVelocityRange);
+    }
+
+    /**
+     * Load a property file from disk.
+     * Exits the program if the file cannot be read.
+     * @param propertyFileName The name of the .txt file to load
+     * @return The loaded properties
+     */
+    public static Properties loadProperties(String propertyFileName) {
+        Properties properties = new Properties();
+        //Read a property file
+        try {
+            FileInputStream fileInput = new FileInputStream(propertyFileName);
+            properties.load(fileInput);
+            fileInput.close();
+        } catch (IOException e) {
+            System.err.println("Error: Could not load property file.");
+            e.printStackTrace();
+            System.exit(1);
+        }
+        return properties;
+    }
+
+    /**
+     * Create the List implementation named by the list property.
+     * @param listType arraylist, single, double, or dummyhead
+     * @return A new empty list of the requested type
+     */
+    public static List<CelestialObject> createList(String listType) {
+        if (listType.equals("arraylist")) {
+            return new ArrayList<>();
+        } else if (listType.equals("single")) {
+            return new LinkedList<>();
+        } else if (listType.equals("double")) {
+            return new DoublyLinkedList<>();
+        } else if (listType.equals("dummyhead")) {
+            return new DummyHeadLinkedList<>();
+        }
+        System.err.println("Error: Unknown list type. Defaulting to ArrayList.");
+        return new ArrayList<>();
+    }
+
+    /**
+     * Create the Integrator named by the integrator property.
+     * @param integratorType euler, leapfrog (also verlet), or rk4
+     * @return A new integrator of the requested type
+     */
+    public static Integrator createIntegrator(String integratorType) {
+        if (integratorType.equals("euler")) {
+            return new EulerIntegrator();
+        } else if (integratorType.equals("leapfrog") || integratorType.equals("verlet")) {
+            return new LeapfrogIntegrator();
+        } else if (integratorType.equals("rk4")) {
+            return new RK4Integrator();
+        }
+        System.err.println("Error: Unknown integrator. Defaulting to Euler.");
+        return new EulerIntegrator();
+    }
+
+    /**
+     * Advance the simulation by one tick.
+     * This method moves all objects, removes off-screen objects,
+     * and generates new comets
+     */
+    public void tick() {
+        tick(null);
+    }
+
+    /**
+     * Advance the simulation by one tick and refill the grid with the bodies that remain.
+     * Survivors are inserted during the removal pass and new comets straight from the spawn
+     * batch, so the grid is built without reading the list by index again
+     * @param grid Grid to refill, or null to skip it
+     */
+    public void tick(SpatialGrid grid) {
+        //Move objects in the list, sub-stepping the ones close to the star
+        for (int i = 0; i < this.celestialObject.size(); i++) {
+            CelestialObject currentObject = this.celestialObject.get(i);
+            //The star feels no gravity, so it just moves at its own velocity like the field's center
+            if (currentObject.isStar) {
+                currentObject.x += currentObject.vx * this.timeStep;
+                currentObject.y += currentObject.vy * this.timeStep;
+                continue;
+            }
+            int substeps = this.field.substeps(currentObject, this.timeStep, this.substepAccuracy, this.maxSubsteps);
+            this.integrator.step(currentObject, this.timeStep, substeps, this.field);
+        }
+        this.field.advance(this.timeStep);
+
+        //Remove objects that left the world
+        if (grid != null) {
+            grid.clear();
+        }
+        for (int i = this.celestialObject.size() - 1; i >= 0; i--) {
+            CelestialObject objectToCheck = this.celestialObject.get(i);
+            boolean isOutside = objectToCheck.x < -objectToCheck.size || objectToCheck.x > this.worldWidth + objectToCheck.size || objectToCheck.y < -objectToCheck.size || objectToCheck.y > this.worldHeight + objectToCheck.size;
+            if (isOutside) {
+                this.celestialObject.remove(i);
+            } else if (grid != null) {
+                grid.insert(objectToCheck);
+            }
+        }
+
+        //Generate new comets
+        ArrayList<CelestialObject> spawned = this.spawnEngine.spawn(this.celestialObject);
+        if (grid != null) {
+            for (int i = 0; i < spawned.size(); i++) {
+                grid.insert(spawned.get(i));
+            }
+            grid.finish();
+        }
+    }
+
+    /**
+     * Override the comet spawn rates.
+     * Rates above 1 spawn more than one comet per axis per tick
+     * @param genX Expected comets per tick along the x-axis
+     * @param genY Expected comets per tick along the y-axis
+     */
+    public void setSpawnRate(double genX, double genY) {
+        this.spawnEngine.setSpawnRate(genX, genY);
+    }
+
+    /**
+     * Restrict comet spawning to the columns [minX, maxX) of the world.
+     * The x-axis rate is scaled to the width of the band, and comets on the left or right
+     * edge are only spawned if the band touches that edge
+     * @param minX First column of the band
+     * @param maxX Column just past the end of the band
+     */
+    public void setSpawnBand(int minX, int maxX) {
+        this.spawnEngine.setSpawnBand(minX, maxX);
+    }
+
+    /**
+     * Return the list holding every object in the simulation
+     * @return The list of celestial objects
+     */
+    public List<CelestialObject> getObjects() {
+        return this.celestialObject;
+    }
+
+    public double getGenX() {
+        return this.spawnEngine.getGenX();
+    }
+
+    public double getGenY() {
+        return this.spawnEngine.getGenY();
+    }
+
+    public int getTimerDelay() {
+        return this.timerDelay;
+    }
+
+    public int getWorldWidth() {
+        return this.worldWidth;
+    }
+
+    public int getWorldHeight() {
+        return this.worldHeight;
+    }
+}
@@ -0,0 +1,208 @@
+import java.util.Arrays;
+
+/**
+ * Hashed uniform grid over the world used to find the bodies inside a rectangle.
+ * Bodies are inserted one at a time, normally by Simulation.tick during the pass it already
+ * makes over the list, so filling the grid never reads the list by index. finish() then hashes
+ * cells into a bucket table sized to the population rather than the world area and sorts the
+ * bodies into buckets with a counting sort. Building is linear in the population for every
+ * List backend and any world size, and a query touches the cells that overlap the rectangle,
+ * or every body if that is fewer
+ */
+public class SpatialGrid {
+    private static final int MIN_BITS = 4;
+
+    private double cellSize;
+    private int columns, rows;
+    private int bits; //The bucket table in use has 1 << bits entries
+    private int[] bucketStart; //Index into items where each bucket begins, plus one end marker
+    private int[] next; //Next free slot of each bucket during finish
+    private int[] bucketOf; //Bucket of each body during finish
+    private CelestialObject[] items; //Bodies ordered by bucket
+    private CelestialObject[] unsorted; //Bodies in insertion order
+    private int count; //Bodies inserted since the last clear
+    private int sortedCount; //Bodies held in items after the last finish
+    private int maxBodySize;
+
+    /**
+     * Construct an empty grid covering the world
+     * @param worldWidth Width of the world
+     * @param worldHeight Height of the world
+     * @param cellSize Width and height of one cell
+     */
+    public SpatialGrid(int worldWidth, int worldHeight, double cellSize) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(worldWidth / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(worldHeight / cellSize));
+        this.bits = MIN_BITS;
+        this.bucketStart = new int[(1 << MIN_BITS) + 1];
+        this.next = new int[1 << MIN_BITS];
+        this.bucketOf = new int[16];
+        this.items = new CelestialObject[16];
+        this.unsorted = new CelestialObject[16];
+        this.count = 0;
+        this.sortedCount = 0;
+    }
+
+    /**
+     * Private helper to get the column of a position, clamped to the grid
+     * @param x Horizontal position
+     * @return Column index
+     */
+    private int column(double x) {
+        return Math.max(0, Math.min(this.columns - 1, (int) Math.floor(x / this.cellSize)));
+    }
+
+    /**
+     * Private helper to get the row of a position, clamped to the grid
+     * @param y Vertical position
+     * @return Row index
+     */
+    private int row(double y) {
+        return Math.max(0, Math.min(this.rows - 1, (int) Math.floor(y / this.cellSize)));
+    }
+
+    /**
+     * Private helper to hash a cell into the bucket table.
+     * Different cells can share a bucket, so callers check the cell of each body they find
+     * @param column Column of the cell
+     * @param row Row of the cell
+     * @return Bucket index
+     */
+    private int bucket(int column, int row) {
+        long key = (long) row * this.columns + column;
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - this.bits));
+    }
+
+    /**
+     * Start filling the grid again.
+     * Queries keep seeing the previous contents until finish is called
+     */
+    public void clear() {
+        this.count = 0;
+        this.maxBodySize = 0;
+    }
+
+    /**
+     * Add one body to the grid being filled
+     * @param body Body to index
+     */
+    public void insert(CelestialObject body) {
+        if (this.count == this.unsorted.length) {
+            this.unsorted = Arrays.copyOf(this.unsorted, this.count * 2);
+        }
+        this.unsorted[this.count++] = body;
+        this.maxBodySize = Math.max(this.maxBodySize, body.size);
+    }
+
+    /**
+     * Sort the inserted bodies into buckets so they can be queried.
+     * Bodies just outside the world are kept in the nearest edge cell
+     */
+    public void finish() {
+        int size = this.count;
+        if (this.items.length < size) {
+            this.items = new CelestialObject[this.unsorted.length];
+            this.bucketOf = new int[this.unsorted.length];
+        }
+
+        //About two buckets per body keeps collisions rare
+        this.bits = MIN_BITS;
+        while ((1 << this.bits) < size * 2) {
+            this.bits++;
+        }
+        int buckets = 1 << this.bits;
+        if (this.bucketStart.length < buckets + 1) {
+            this.bucketStart = new int[buckets + 1];
+            this.next = new int[buckets];
+        }
+
+        //Count the bodies in each bucket, clearing only the part of the table in use
+        Arrays.fill(this.bucketStart, 0, buckets + 1, 0);
+        for (int i = 0; i < size; i++) {
+            CelestialObject body = this.unsorted[i];
+            this.bucketOf[i] = bucket(column(body.x), row(body.y));
+            this.bucketStart[this.bucketOf[i] + 1]++;
+        }
+        //Turn the counts into start positions
+        for (int b = 0; b < buckets; b++) {
+            this.bucketStart[b + 1] += this.bucketStart[b];
+        }
+        //Place each body after the ones already in its bucket
+        System.arraycopy(this.bucketStart, 0, this.next, 0, buckets);
+        for (int i = 0; i < size; i++) {
+            this.items[this.next[this.bucketOf[i]]++] = this.unsorted[i];
+        }
+        //Clear stale references left over from a larger population
+        if (this.sortedCount > size) {
+            Arrays.fill(this.items, size, this.sortedCount, null);
+            Arrays.fill(this.unsorted, size, this.sortedCount, null);
+        }
+        this.sortedCount = size;
+    }
+
+    /**
+     * Replace the contents of the grid with the bodies in the list
+     * @param bodies Every body to index
+     */
+    public void rebuild(ArrayList<CelestialObject> bodies) {
+        clear();
+        for (int i = 0; i < bodies.size(); i++) {
+            insert(bodies.get(i));
+        }
+        finish();
+    }
+
+    /**
+     * Append every body whose drawn square overlaps the rectangle
+     * @param minX Left edge of the rectangle
+     * @param minY Top edge of the rectangle
+     * @param maxX Right edge of the rectangle
+     * @param maxY Bottom edge of the rectangle
+     * @param out List the matching bodies are appended to
+     */
+    public void query(double minX, double minY, double maxX, double maxY, List<CelestialObject> out) {
+        //Bodies are indexed by their corner, so widen the search by the largest body
+        int firstColumn = column(minX - this.maxBodySize);
+        int lastColumn = column(maxX);
+        int firstRow = row(minY - this.maxBodySize);
+        int lastRow = row(maxY);
+
+        //When zoomed far out it is cheaper to check every body than every cell in view
+        long cellsInView = (long) (lastColumn - firstColumn + 1) * (lastRow - firstRow + 1);
+        if (cellsInView >= this.sortedCount) {
+            for (int i = 0; i < this.sortedCount; i++) {
+                addIfOverlapping(this.items[i], minX, minY, maxX, maxY, out);
+            }
+            return;
+        }
+
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                int b = bucket(c, r);
+                for (int i = this.bucketStart[b]; i < this.bucketStart[b + 1]; i++) {
+                    CelestialObject body = this.items[i];
+                    //Skip bodies from other cells sharing this bucket, they are found from their own cell
+                    if (column(body.x) == c && row(body.y) == r) {
+                        addIfOverlapping(body, minX, minY, maxX, maxY, out);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Private helper to append a body if its drawn square overlaps the rectangle
+     * @param body Body to check
+     * @param minX Left edge of the rectangle
+     * @param minY Top edge of the rectangle
+     * @param maxX Right edge of the rectangle
+     * @param maxY Bottom edge of the rectangle
+     * @param out List the body is appended to
+     */
+    private void addIfOverlapping(CelestialObject body, double minX, double minY, double maxX, double maxY, List<CelestialObject> out) {
+        if (body.x + body.size >= minX && body.x <= maxX && body.y + body.size >= minY && body.y <= maxY) {
+            out.add(body);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+import java.awt.Color;
+import java.util.Random;
+
+/**
+ * Generates the comets that enter the world each tick.
+ * The number of comets on each edge is drawn from a Poisson distribution, so rates
+ * far above one comet per tick cost one sample per edge. The whole batch is built first
+ * and appended to the simulation with a single addAll
+ */
+public class SpawnEngine {
+    /**
+     * Edges of the world a comet can enter from
+     */
+    private enum Edge { TOP, BOTTOM, LEFT, RIGHT }
+
+    private static final Edge[] EDGES = Edge.values();
+    //Below this mean the multiplication method is cheaper than rejection sampling
+    private static final double SMALL_MEAN = 30;
+
+    private Random cometGenerator;
+    private int worldWidth, worldHeight;
+    private double genX, genY;
+    private int bodySize;
+    private int bodyVelocityRange;
+    //Spawn band, narrowed when this engine only owns one tile of the world
+    private int spawnMinX, spawnMaxX;
+
+    /**
+     * Construct a spawn engine covering the whole world
+     * @param worldWidth Width of the world
+     * @param worldHeight Height of the world
+     * @param genX Expected comets per tick along the x-axis (top and bottom edges together)
+     * @param genY Expected comets per tick along the y-axis (left and right edges together)
+     * @param bodySize Size of each comet
+     * @param bodyVelocityRange Largest speed of a comet on each axis
+     */
+    public SpawnEngine(int worldWidth, int worldHeight, double genX, double genY, int bodySize, int bodyVelocityRange) {
+        this.cometGenerator = new Random();
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+        this.genX = genX;
+        this.genY = genY;
+        this.bodySize = bodySize;
+        this.bodyVelocityRange = bodyVelocityRange;
+        this.spawnMinX = 0;
+        this.spawnMaxX = worldWidth;
+    }
+
+    /**
+     * Generate this tick's comets and append them to the list in one bulk insert
+     * @param target List the new comets are added to
+     * @return The comets that were added
+     */
+    public ArrayList<CelestialObject> spawn(List<CelestialObject> target) {
+        ArrayList<CelestialObject> batch = new ArrayList<>();
+        for (Edge edge : EDGES) {
+            int count = samplePoisson(meanFor(edge));
+            for (int i = 0; i < count; i++) {
+                batch.add(createComet(edge));
+            }
+        }
+        target.addAll(batch);
+        return batch;
+    }
+
+    /**
+     * Private helper to get the expected comets per tick on one edge.
+     * Each axis rate is split evenly between its two edges. Top and bottom are scaled to the
+     * width of the spawn band, and left or right is zero unless the band touches that edge
+     * @param edge Edge to check
+     * @return Mean number of comets for the edge this tick
+     */
+    private double meanFor(Edge edge) {
+        switch (edge) {
+            case TOP:
+            case BOTTOM:
+                return this.genX / 2 * (this.spawnMaxX - this.spawnMinX) / this.worldWidth;
+            case LEFT:
+                return this.spawnMinX == 0 ? this.genY / 2 : 0;
+            default:
+                return this.spawnMaxX == this.worldWidth ? this.genY / 2 : 0;
+        }
+    }
+
+    /**
+     * Private helper to create one comet on an edge with a random velocity.
+     * Each velocity component is uniform over the non-zero values in the range
+     * @param edge Edge the comet starts on
+     * @return The new comet
+     */
+    private CelestialObject createComet(Edge edge) {
+        double velocityX = randomVelocity();
+        double velocityY = randomVelocity();
+        double startX;
+        double startY;
+
+        if (edge == Edge.TOP || edge == Edge.BOTTOM) {
+            startX = this.spawnMinX + cometGenerator.nextInt(this.spawnMaxX - this.spawnMinX);
+            startY = edge == Edge.TOP ? 0 : this.worldHeight;
+        } else {
+            startY = cometGenerator.nextInt(this.worldHeight);
+            startX = edge == Edge.LEFT ? 0 : this.worldWidth;
+        }
+        return new CelestialObject(startX, startY, velocityX, velocityY, this.bodySize, Color.BLACK);
+    }
+
+    /**
+     * Private helper to draw a velocity in [-range, -1] or [1, range]
+     * @return The velocity
+     */
+    private int randomVelocity() {
+        int velocity = cometGenerator.nextInt(this.bodyVelocityRange * 2) - this.bodyVelocityRange;
+        return velocity >= 0 ? velocity + 1 : velocity;
+    }
+
+    /**
+     * Private helper to draw a Poisson distributed count.
+     * Small means multiply uniforms until they drop below e^-mean (Knuth).
+     * Large means use Hormann's transformed rejection (PTRS), which takes about one try
+     * no matter how large the mean is
+     * @param mean Expected count
+     * @return The sampled count
+     */
+    private int samplePoisson(double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        if (mean < SMALL_MEAN) {
+            double limit = Math.exp(-mean);
+            double product = cometGenerator.nextDouble();
+            int count = 0;
+            while (product > limit) {
+                product *= cometGenerator.nextDouble();
+                count++;
+            }
+            return count;
+        }
+
+        double sqrtMean = Math.sqrt(mean);
+        double logMean = Math.log(mean);
+        double b = 0.931 + 2.53 * sqrtMean;
+        double a = -0.059 + 0.02483 * b;
+        double invAlpha = 1.1239 + 1.1328 / (b - 3.4);
+        double vr = 0.9277 - 3.6224 / (b - 2);
+        while (true) {
+            double u = cometGenerator.nextDouble() - 0.5;
+            double v = cometGenerator.nextDouble();
+            double us = 0.5 - Math.abs(u);
+            long k = (long) Math.floor((2 * a / us + b) * u + mean + 0.43);
+            //Quick accept in the box under the hat
+            if (us >= 0.07 && v <= vr) {
+                return (int) k;
+            }
+            if (k < 0 || (us < 0.013 && v > us)) {
+                continue;
+            }
+            if (Math.log(v * invAlpha / (a / (us * us) + b)) <= -mean + k * logMean - logFactorial(k)) {
+                return (int) k;
+            }
+        }
+    }
+
+    /**
+     * Private helper to compute ln(k!).
+     * Sums logs for small k and uses Stirling's series beyond that
+     * @param k Non-negative integer
+     * @return Natural log of k factorial
+     */
+    private static double logFactorial(long k) {
+        if (k < 10) {
+            double result = 0;
+            for (int i = 2; i <= k; i++) {
+                result += Math.log(i);
+            }
+            return result;
+        }
+        double n = k + 1;
+        return (n - 0.5) * Math.log(n) - n + 0.5 * Math.log(2 * Math.PI)
+                + 1 / (12 * n) - 1 / (360 * n * n * n);
+    }
+
+    /**
+     * Override the comet spawn rates
+     * @param genX Expected comets per tick along the x-axis
+     * @param genY Expected comets per tick along the y-axis
+     */
+    public void setSpawnRate(double genX, double genY) {
+        this.genX = genX;
+        this.genY = genY;
+    }
+
+    /**
+     * Restrict comet spawning to the columns [minX, maxX) of the world
+     * @param minX First column of the band
+     * @param maxX Column just past the end of the band
+     */
+    public void setSpawnBand(int minX, int maxX) {
+        this.spawnMinX = minX;
+        this.spawnMaxX = maxX;
+    }
+
+    public double getGenX() {
+        return this.genX;
+    }
+
+    public double getGenY() {
+        return this.genY;
+    }
+}
@@ -0,0 +1,149 @@
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Capacity-finding stress mode for the List implementations.
+ * Runs the simulation headless for each backend and ramps the spawn rate upward
+ * until the p99 tick time crosses the timer_delay budget, then reports the population at that knee
+ */
+public class StressTest {
+    private static final String[] BACKENDS = {"arraylist", "single", "double", "dummyhead"};
+
+    /**
+     * Result of ramping a single backend
+     */
+    private static class Knee {
+        double rate;
+        int population;
+        double p99Millis;
+        boolean reached;
+    }
+
+    /**
+     * Run untimed windows until the population stops growing at the current rate.
+     * A comet lives for up to the world size over its speed in ticks, which is far longer
+     * than one window, so the population needs several windows to catch up with a new rate
+     * @param simulation Simulation to advance
+     * @param windowTicks Number of ticks per window
+     * @param tolerance Largest relative change in population across a settled window
+     * @param maxWindows Maximum number of windows to run
+     */
+    private static void settle(Simulation simulation, int windowTicks, double tolerance, int maxWindows) {
+        int before = simulation.getObjects().size();
+        for (int window = 0; window < maxWindows; window++) {
+            for (int i = 0; i < windowTicks; i++) {
+                simulation.tick();
+            }
+            int after = simulation.getObjects().size();
+            if (Math.abs(after - before) <= tolerance * Math.max(after, 1)) {
+                return;
+            }
+            before = after;
+        }
+    }
+
+    /**
+     * Ramp the spawn rate for one backend until the tick budget is broken.
+     * At each rate the population is first allowed to settle, then one window of ticks is
+     * timed. While its p99 stays within budget the rate is multiplied by the ramp factor.
+     * The factor shrinks once p99 gets close to the budget so the knee is found with a finer step.
+     * @param properties Loaded configuration with the list property set to the backend
+     * @param windowTicks Number of ticks timed per ramp step
+     * @param settleTicks Number of ticks per untimed settling window
+     * @param ramp Rate multiplier applied after a window within budget
+     * @param maxSteps Maximum number of ramp steps before giving up
+     * @param tolerance Relative population change below which a rate counts as settled
+     * @param maxSettleWindows Maximum number of untimed windows spent settling each rate
+     * @return The last sustainable rate and its steady-state population
+     */
+    private static Knee findKnee(Properties properties, int windowTicks, int settleTicks, double ramp, int maxSteps, double tolerance, int maxSettleWindows) {
+        Simulation simulation = new Simulation(properties);
+        double budgetNanos = simulation.getTimerDelay() * 1_000_000.0;
+        double ratioY = simulation.getGenX() > 0 ? simulation.getGenY() / simulation.getGenX() : 1;
+        double rate = Math.max(simulation.getGenX(), 0.01);
+        long[] tickNanos = new long[windowTicks];
+
+        //Untimed warm-up window so JIT compilation does not count against the budget
+        simulation.setSpawnRate(rate, rate * ratioY);
+        for (int i = 0; i < settleTicks; i++) {
+            simulation.tick();
+        }
+
+        Knee knee = new Knee();
+        boolean overOnce = false;
+        for (int step = 0; step < maxSteps; step++) {
+            simulation.setSpawnRate(rate, rate * ratioY);
+            settle(simulation, settleTicks, tolerance, maxSettleWindows);
+            for (int i = 0; i < windowTicks; i++) {
+                long start = System.nanoTime();
+                simulation.tick();
+                tickNanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(tickNanos);
+            long p99 = tickNanos[(int) Math.ceil(windowTicks * 0.99) - 1];
+            int population = simulation.getObjects().size();
+            System.out.printf("  step %3d  rate %10.3f  population %8d  p99 %9.3f ms%n",
+                    step, rate, population, p99 / 1_000_000.0);
+
+            //A window over budget is repeated once at the same settled population, so a single GC pause is not the knee
+            if (p99 > budgetNanos) {
+                if (overOnce) {
+                    knee.reached = true;
+                    return knee;
+                }
+                overOnce = true;
+                continue;
+            }
+            overOnce = false;
+            knee.rate = rate;
+            knee.population = population;
+            knee.p99Millis = p99 / 1_000_000.0;
+
+            //Slow the ramp down near the budget so the knee is not overshot
+            rate *= p99 > budgetNanos * 0.5 ? Math.sqrt(ramp) : ramp;
+        }
+        return knee;
+    }
+
+    /**
+     * Main method that runs the stress ramp for every List backend and prints the knees
+     * @param args Command-line arguments: property file and optional backends to test
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Usage: java StressTest <property_file_name> [backend ...]");
+            System.exit(1);
+        }
+
+        Properties properties = Simulation.loadProperties(args[0]);
+        String[] backends = args.length > 1 ? Arrays.copyOfRange(args, 1, args.length) : BACKENDS;
+        //The timed window is long so that p99 is not just one of the few slowest ticks
+        int windowTicks = Integer.parseInt(properties.getProperty("stress_window", "1000"));
+        int settleTicks = Integer.parseInt(properties.getProperty("stress_settle_window", "100"));
+        double ramp = Double.parseDouble(properties.getProperty("stress_ramp", "1.5"));
+        int maxSteps = Integer.parseInt(properties.getProperty("stress_max_steps", "60"));
+        double tolerance = Double.parseDouble(properties.getProperty("stress_settle", "0.02"));
+        int maxSettleWindows = Integer.parseInt(properties.getProperty("stress_settle_max", "30"));
+
+        String machine = System.getProperty("os.name") + " " + System.getProperty("os.arch")
+                + ", " + Runtime.getRuntime().availableProcessors() + " cpus, java "
+                + System.getProperty("java.version");
+        System.out.println("Massive Motion stress test on " + machine);
+        System.out.println("Budget: p99 tick <= " + properties.getProperty("timer_delay") + " ms");
+
+        Knee[] knees = new Knee[backends.length];
+        for (int i = 0; i < backends.length; i++) {
+            System.out.println("Ramping " + backends[i] + "...");
+            properties.setProperty("list", backends[i]);
+            knees[i] = findKnee(properties, windowTicks, settleTicks, ramp, maxSteps, tolerance, maxSettleWindows);
+        }
+
+        System.out.println();
+        System.out.println("Sustainable population per backend (" + machine + ")");
+        for (int i = 0; i < backends.length; i++) {
+            String note = knees[i].reached ? "" : "  (budget never broken, raise stress_max_steps)";
+            System.out.printf("%-10s  population %8d  rate %10.3f  p99 %9.3f ms%s%n",
+                    backends[i], knees[i].population, knees[i].rate, knees[i].p99Millis, note);
+        }
+    }
+}
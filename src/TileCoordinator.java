@@ -0,0 +1,127 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * Coordinator for the distributed simulation.
+ * Starts one TileWorker process per vertical strip of the world, routes bodies that cross
+ * strip borders to their new owner, and gathers every strip into one list for rendering
+ */
+public class TileCoordinator {
+    private int tileCount;
+    private int worldWidth;
+    private Process[] workers;
+    private Socket[] sockets;
+    private DataInputStream[] inputs;
+    private DataOutputStream[] outputs;
+    private List<CelestialObject>[] incoming; //Bodies waiting to be sent to each tile
+
+    /**
+     * Start the worker processes and wait for each of them to connect.
+     * Workers run in the same JVM installation and class path as this process
+     * @param propertyFileName Property file the workers load
+     * @param worldWidth Width of the whole world
+     * @param tileCount Number of tiles, one worker process each
+     * @throws IOException If a worker cannot be started or does not connect
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TileCoordinator(String propertyFileName, int worldWidth, int tileCount) throws IOException {
+        this.tileCount = tileCount;
+        this.worldWidth = worldWidth;
+        this.workers = new Process[tileCount];
+        this.sockets = new Socket[tileCount];
+        this.inputs = new DataInputStream[tileCount];
+        this.outputs = new DataOutputStream[tileCount];
+        this.incoming = new List[tileCount];
+
+        ServerSocket server = new ServerSocket(0, tileCount, InetAddress.getLoopbackAddress());
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        String classPath = System.getProperty("java.class.path");
+        for (int i = 0; i < tileCount; i++) {
+            ProcessBuilder builder = new ProcessBuilder(java, "-cp", classPath, "TileWorker",
+                    propertyFileName, String.valueOf(i), String.valueOf(tileCount), String.valueOf(server.getLocalPort()));
+            builder.inheritIO();
+            this.workers[i] = builder.start();
+            this.incoming[i] = new ArrayList<>();
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+
+        //Workers connect in any order and introduce themselves with their tile index
+        try {
+            server.setSoTimeout(30000);
+            for (int i = 0; i < tileCount; i++) {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                int tile = in.readInt();
+                if (tile < 0 || tile >= tileCount || this.sockets[tile] != null) {
+                    socket.close();
+                    throw new IOException("Worker sent an invalid tile index " + tile);
+                }
+                this.sockets[tile] = socket;
+                this.inputs[tile] = in;
+                this.outputs[tile] = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            }
+        } finally {
+            server.close();
+        }
+    }
+
+    /**
+     * Advance every tile by one tick.
+     * All workers are sent their tick before any reply is read, so the tiles run in parallel
+     * @return Every body in the simulation after the tick
+     * @throws IOException If a worker connection fails
+     */
+    public ArrayList<CelestialObject> tick() throws IOException {
+        for (int i = 0; i < this.tileCount; i++) {
+            this.outputs[i].writeByte(TileProtocol.TICK);
+            TileProtocol.writeBodies(this.outputs[i], this.incoming[i]);
+            this.outputs[i].flush();
+            this.incoming[i] = new ArrayList<>();
+        }
+
+        ArrayList<CelestialObject> snapshot = new ArrayList<>();
+        List<CelestialObject> emigrants = new ArrayList<>();
+        for (int i = 0; i < this.tileCount; i++) {
+            TileProtocol.readBodies(this.inputs[i], emigrants);
+            TileProtocol.readBodies(this.inputs[i], snapshot);
+        }
+
+        //Route bodies that left a strip to the tile that owns them now
+        for (int i = 0; i < emigrants.size(); i++) {
+            CelestialObject body = emigrants.get(i);
+            this.incoming[TileProtocol.ownerOf(body.x, this.worldWidth, this.tileCount)].add(body);
+            snapshot.add(body);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Close every worker connection and stop the worker processes.
+     * Nothing is written to the streams, so this is safe to call from the shutdown hook
+     * while tick may be running on another thread. Workers exit when their socket closes
+     */
+    public void close() {
+        for (int i = 0; i < this.tileCount; i++) {
+            try {
+                if (this.sockets[i] != null) {
+                    this.sockets[i].close();
+                }
+            } catch (IOException e) {
+                //Worker is already gone
+            }
+        }
+        for (int i = 0; i < this.tileCount; i++) {
+            if (this.workers[i] != null) {
+                this.workers[i].destroy();
+            }
+        }
+    }
+}
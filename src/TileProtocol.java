@@ -0,0 +1,81 @@
+import java.awt.Color;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Binary protocol shared by TileCoordinator and TileWorker.
+ * The world is split into vertical strips, one per worker. Each tick the coordinator sends
+ * a worker the bodies that moved into its strip, and the worker answers with the bodies that
+ * left its strip followed by a snapshot of the bodies it still owns. A worker stops when the
+ * coordinator closes its socket.
+ * Every body is sent as x, y, vx, vy (doubles), size and RGB color (ints) and a star flag, 41 bytes in total.
+ */
+public class TileProtocol {
+    public static final byte TICK = 1;
+
+    /**
+     * Return the first column owned by a tile
+     * @param tile Index of the tile
+     * @param worldWidth Width of the whole world
+     * @param tileCount Number of tiles the world is split into
+     * @return First column of the tile
+     */
+    public static int tileStart(int tile, int worldWidth, int tileCount) {
+        return (int) Math.ceil((double) tile * worldWidth / tileCount);
+    }
+
+    /**
+     * Return the tile that owns a position.
+     * Positions outside the world belong to the nearest edge tile
+     * @param x Horizontal position of a body
+     * @param worldWidth Width of the whole world
+     * @param tileCount Number of tiles the world is split into
+     * @return Index of the owning tile
+     */
+    public static int ownerOf(double x, int worldWidth, int tileCount) {
+        int tile = (int) Math.floor(x * tileCount / worldWidth);
+        return Math.max(0, Math.min(tileCount - 1, tile));
+    }
+
+    /**
+     * Write a count followed by every body in the list
+     * @param out Stream to write to
+     * @param bodies Bodies to send
+     * @throws IOException If the socket fails
+     */
+    public static void writeBodies(DataOutputStream out, List<CelestialObject> bodies) throws IOException {
+        out.writeInt(bodies.size());
+        for (int i = 0; i < bodies.size(); i++) {
+            CelestialObject body = bodies.get(i);
+            out.writeDouble(body.x);
+            out.writeDouble(body.y);
+            out.writeDouble(body.vx);
+            out.writeDouble(body.vy);
+            out.writeInt(body.size);
+            out.writeInt(body.color.getRGB());
+            out.writeBoolean(body.isStar);
+        }
+    }
+
+    /**
+     * Read a count followed by that many bodies, appending them to the list
+     * @param in Stream to read from
+     * @param bodies List the bodies are appended to
+     * @throws IOException If the socket fails
+     */
+    public static void readBodies(DataInputStream in, List<CelestialObject> bodies) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            double x = in.readDouble();
+            double y = in.readDouble();
+            double vx = in.readDouble();
+            double vy = in.readDouble();
+            int size = in.readInt();
+            Color color = new Color(in.readInt());
+            CelestialObject body = new CelestialObject(x, y, vx, vy, size, color);
+            body.isStar = in.readBoolean();
+            bodies.add(body);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Properties;
+
+/**
+ * Worker process for the distributed simulation.
+ * Simulates one vertical strip of the world with its own Simulation and
+ * exchanges bodies crossing the strip borders with the TileCoordinator every tick
+ */
+public class TileWorker {
+
+    /**
+     * Main method started by TileCoordinator for each tile
+     * @param args Command-line arguments: property file, tile index, tile count, coordinator port
+     */
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.err.println("Usage: java TileWorker <property_file_name> <tile> <tile_count> <port>");
+            System.exit(1);
+        }
+        Properties properties = Simulation.loadProperties(args[0]);
+        int tile = Integer.parseInt(args[1]);
+        int tileCount = Integer.parseInt(args[2]);
+        int port = Integer.parseInt(args[3]);
+
+        Simulation simulation = new Simulation(properties);
+        int worldWidth = simulation.getWorldWidth();
+        simulation.setSpawnBand(TileProtocol.tileStart(tile, worldWidth, tileCount),
+                TileProtocol.tileStart(tile + 1, worldWidth, tileCount));
+        List<CelestialObject> celestialObject = simulation.getObjects();
+
+        //Only the tile the star starts in keeps it
+        if (TileProtocol.ownerOf(celestialObject.get(0).x, worldWidth, tileCount) != tile) {
+            celestialObject.remove(0);
+        }
+
+        try {
+            Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            out.writeInt(tile);
+            out.flush();
+
+            while (in.readByte() == TileProtocol.TICK) {
+                //Bodies that crossed into this strip last tick, appended in one bulk insert
+                ArrayList<CelestialObject> immigrants = new ArrayList<>();
+                TileProtocol.readBodies(in, immigrants);
+                celestialObject.addAll(immigrants);
+                simulation.tick();
+
+                //Hand off everything that left the strip
+                List<CelestialObject> emigrants = new ArrayList<>();
+                for (int i = celestialObject.size() - 1; i >= 0; i--) {
+                    if (TileProtocol.ownerOf(celestialObject.get(i).x, worldWidth, tileCount) != tile) {
+                        emigrants.add(celestialObject.remove(i));
+                    }
+                }
+                TileProtocol.writeBodies(out, emigrants);
+                TileProtocol.writeBodies(out, celestialObject);
+                out.flush();
+            }
+            socket.close();
+        } catch (EOFException e) {
+            //Coordinator went away, nothing left to simulate
+        } catch (IOException e) {
+            System.err.println("Error: Tile " + tile + " lost its coordinator.");
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}